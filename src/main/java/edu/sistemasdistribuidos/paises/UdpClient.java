@@ -9,6 +9,8 @@ import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 
+import edu.sistemasdistribuidos.paises.config.GameConfig;
+
 /*
  * Manual de como jogar:
  * 1. Compile e execute o UdpServer.java em um terminal.
@@ -19,24 +21,30 @@ import java.util.Scanner;
  * 6. Divirta-se!
  */
 public class UdpClient {
-    // Altere para o IP do servidor se necessário
-    private static final String SERVER_HOST = "localhost";
-    private static final int SERVER_PORT = 5000;
-    private static final int BUFFER_SIZE = 4096;
+    // Host, porta e buffer vêm da configuração (client.host, server.port, client.bufferSize)
+    private final String serverHost;
+    private final int serverPort;
+    private final int bufferSize;
+
+    public UdpClient(GameConfig config) {
+        this.serverHost = config.getClientHost();
+        this.serverPort = config.getServerPort();
+        this.bufferSize = config.getClientBufferSize();
+    }
 
-    public static void main(String[] args) {
-        new UdpClient().run();
+    public static void main(String[] args) throws IOException {
+        new UdpClient(GameConfig.load(args)).run();
     }
 
     // Lógica principal do cliente
     public void run() {
         try (DatagramSocket socket = new DatagramSocket()) {
             socket.setSoTimeout(0);
-            InetAddress serverAddr = InetAddress.getByName(SERVER_HOST);
+            InetAddress serverAddr = InetAddress.getByName(serverHost);
 
             // Listener para mensagens do servidor
             Thread listener = new Thread(() -> {
-                byte[] buf = new byte[BUFFER_SIZE];
+                byte[] buf = new byte[bufferSize];
                 DatagramPacket pack = new DatagramPacket(buf, buf.length);
                 while (true) {
                     try {
@@ -60,7 +68,7 @@ public class UdpClient {
             listener.start();
 
             // Envia JOIN para o servidor
-            send(socket, "JOIN", serverAddr, SERVER_PORT);
+            send(socket, "JOIN", serverAddr, serverPort);
             System.out.println("[CLIENT] JOIN enviado. Digite seus palpites (ou 'desisto' para sair).");
 
             // Loop para ler palpites do usuário
@@ -70,7 +78,7 @@ public class UdpClient {
                 if (line.isEmpty()) continue;
                 // Envia o palpite ou a desistência
                 if (line.equalsIgnoreCase("desisto")) {
-                    send(socket, "DESISTO", serverAddr, SERVER_PORT);
+                    send(socket, "DESISTO", serverAddr, serverPort);
                     System.out.println("[CLIENT] Você desistiu. Saindo.");
                     try {
                         // tempo para garantir que a mensagem seja reccebida antes de fechar
@@ -80,7 +88,7 @@ public class UdpClient {
                     }
                     break;
                 } else {
-                    send(socket, "GUESS:" + line, serverAddr, SERVER_PORT);
+                    send(socket, "GUESS:" + line, serverAddr, serverPort);
                 }
             }
 
@@ -5,55 +5,203 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Scanner;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import edu.sistemasdistribuidos.paises.config.GameConfig;
 import edu.sistemasdistribuidos.paises.models.Pais;
 import edu.sistemasdistribuidos.paises.models.Translation;
 import edu.sistemasdistribuidos.paises.services.CountryService;
+import edu.sistemasdistribuidos.paises.services.GameJournal;
+import edu.sistemasdistribuidos.paises.services.TargetHints;
 
 public class UdpServer {
 
-    private static final int SERVER_PORT = 5000;
-    private static final int BUFFER_SIZE = 4096;
+    private final GameConfig config;
     private final Map<String, SocketAddress> clients = new ConcurrentHashMap<>();
+    // Socket pelo qual cada cliente chegou, para responder sempre pelo mesmo shard
+    private final Map<SocketAddress, DatagramSocket> routes = new ConcurrentHashMap<>();
 
-    private DatagramSocket socket;
-    private Pais targetCountry;
+    private final List<DatagramSocket> sockets = new ArrayList<>();
+    private volatile Pais targetCountry;
+    // Dicas pré-calculadas para o país alvo atual (distância em fronteiras, sub-região, continentes)
+    private volatile TargetHints targetHints;
+    private final Object roundLock = new Object();
+    // Resultado acumulado do aquecimento; só existe para o JIT não descartar o laço
+    private volatile long warmupSink;
 
-    private final CountryService countryService = new CountryService(); // Instancia o serviço
+    private final CountryService countryService; // Serviço de busca de países
+    // Journal do estado do jogo, usado para retomar a partida após reinício
+    private final GameJournal journal;
+
+    public UdpServer(GameConfig config) {
+        this.config = config;
+        this.countryService = new CountryService(config);
+        this.journal = new GameJournal(Paths.get(config.getJournalPath()), config.getJournalCompactThreshold());
+    }
 
     public static void main(String[] args) throws Exception {
-        new UdpServer().start();
+        new UdpServer(GameConfig.load(args)).start();
     }
 
     public void start() throws Exception {
-        chooseTargetCountry();
+        // Retoma o jogo salvo no journal, se houver; caso contrário, escolhe um novo país
+        journal.open();
+        boolean recovered = recoverGame();
+        if (!recovered) {
+            chooseTargetCountry();
+            journal.recordTarget(targetCountry);
+        }
+        scheduleJournalMaintenance();
 
-        // Inicia o socket UDP
-        socket = new DatagramSocket(SERVER_PORT);
-        System.out.println("[SERVER] Ouvindo na porta " + SERVER_PORT + ". Jogo iniciado com: " + getPortugueseName(targetCountry));
-        byte[] buf = new byte[BUFFER_SIZE];
-        DatagramPacket packet = new DatagramPacket(buf, buf.length);
+        if (recovered) {
+            // Jogo retomado: abre a porta imediatamente e carrega o catálogo em segundo plano
+            openSockets();
+            Thread loader = new Thread(this::prepareCatalog, "catalog-loader");
+            loader.setDaemon(true);
+            loader.start();
+        } else {
+            // Jogo novo: carrega o catálogo e aquece antes de abrir a porta
+            prepareCatalog();
+            openSockets();
+        }
+        System.out.println("[SERVER] Ouvindo na porta " + config.getServerPort() + " com " + sockets.size() + " shard(s). Jogo iniciado com: " + getPortugueseName(targetCountry));
+
+        // Cada shard tem sua própria thread de recebimento e seu próprio buffer
+        List<Thread> receivers = new ArrayList<>();
+        for (int i = 0; i < sockets.size(); i++) {
+            DatagramSocket shard = sockets.get(i);
+            Thread receiver = new Thread(() -> receiveLoop(shard), "udp-shard-" + i);
+            receivers.add(receiver);
+            receiver.start();
+        }
+        for (Thread receiver : receivers) {
+            receiver.join();
+        }
+    }
+
+    // Restaura país alvo e jogadores a partir do journal
+    private boolean recoverGame() {
+        Pais recovered = journal.getTarget();
+        if (recovered == null) {
+            return false;
+        }
+        // Dicas provisórias, sem grafo de fronteiras, até o catálogo terminar de carregar
+        setTarget(recovered);
+        for (String key : journal.getClients()) {
+            int sep = key.lastIndexOf(':');
+            clients.put(key, new InetSocketAddress(key.substring(0, sep), Integer.parseInt(key.substring(sep + 1))));
+        }
+        System.out.println("[SERVER] Jogo retomado do journal: " + clients.size() + " jogador(es), "
+                + journal.getGuessHistory().size() + " palpite(s).");
+        return true;
+    }
+
+    // Grava e compacta o journal periodicamente em uma thread de fundo
+    private void scheduleJournalMaintenance() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "journal-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(journal::flush,
+                config.getJournalFlushIntervalMillis(), config.getJournalFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(journal::compactIfNeeded,
+                config.getJournalCompactIntervalSeconds(), config.getJournalCompactIntervalSeconds(), TimeUnit.SECONDS);
+        // Grava o que estiver no buffer ao encerrar normalmente (Ctrl+C, SIGTERM)
+        Runtime.getRuntime().addShutdownHook(new Thread(journal::close, "journal-shutdown"));
+    }
+
+    // Carrega o catálogo (índice de nomes e grafo de fronteiras), calcula as dicas do alvo e, se configurado, aquece o JIT
+    private void prepareCatalog() {
+        List<Pais> catalog = countryService.loadCatalog();
+        // Uma rodada pode ter começado enquanto o catálogo carregava
+        synchronized (roundLock) {
+            setTarget(targetCountry);
+        }
+        if (catalog.isEmpty()) {
+            System.err.println("[SERVER] Catálogo indisponível. Dicas de fronteira e aquecimento desativados.");
+            return;
+        }
+        if (config.isWarmup()) {
+            warmUp(catalog);
+        }
+    }
+
+    // Executa buscas e relatórios sem enviar nada, para o JIT compilar o caminho dos palpites
+    private void warmUp(List<Pais> catalog) {
+        long start = System.nanoTime();
+        long sink = 0;
+        for (int i = 0; i < config.getWarmupIterations(); i++) {
+            Pais candidate = catalog.get(i % catalog.size());
+            Pais guessed = countryService.findCountry(getPortugueseName(candidate));
+            if (guessed != null) {
+                sink += buildReport(guessed, targetHints, "warmup").length();
+            }
+        }
+        warmupSink = sink;
+        System.out.println("[SERVER] Aquecimento concluído: " + config.getWarmupIterations() + " iterações em "
+                + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+
+    // Abre os sockets na porta do servidor; com mais de um shard, o kernel distribui os fluxos entre eles
+    private void openSockets() throws IOException {
+        int shards = Math.max(1, config.getReceiveShards());
+        if (shards > 1) {
+            try (DatagramSocket probe = new DatagramSocket(null)) {
+                if (!probe.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)) {
+                    System.err.println("[SERVER] SO_REUSEPORT não suportado nesta plataforma. Usando 1 shard.");
+                    shards = 1;
+                }
+            }
+        }
+        for (int i = 0; i < shards; i++) {
+            DatagramSocket s = new DatagramSocket(null);
+            if (shards > 1) {
+                s.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+            }
+            s.bind(new InetSocketAddress(config.getServerPort()));
+            sockets.add(s);
+        }
+    }
 
-        // Loop principal de recebimento de mensagens
+    // Loop de recebimento de mensagens de um shard
+    private void receiveLoop(DatagramSocket shard) {
+        byte[] buf = new byte[config.getServerBufferSize()];
+        DatagramPacket packet = new DatagramPacket(buf, buf.length);
+        boolean inline = config.getDispatch() == GameConfig.Dispatch.INLINE;
         while (true) {
             try {
-                socket.receive(packet);
+                packet.setLength(buf.length);
+                shard.receive(packet);
                 String msg = new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8).trim();
                 SocketAddress addr = packet.getSocketAddress();
                 String key = ((InetSocketAddress) addr).getAddress().getHostAddress() + ":" + ((InetSocketAddress) addr).getPort();
-                new Thread(() -> handleMessage(msg, key, addr)).start();
+                // Só guarda a rota de jogadores (ou de quem está entrando), para não acumular endereços avulsos
+                if (clients.containsKey(key) || msg.equalsIgnoreCase("JOIN")) {
+                    routes.put(addr, shard);
+                }
+                if (inline) {
+                    handleMessage(msg, key, addr);
+                } else {
+                    new Thread(() -> handleMessage(msg, key, addr)).start();
+                }
             } catch (IOException e) {
-                if (socket.isClosed()) {
-                    System.out.println("[SERVER] Socket fechado. Encerrando o servidor.");
+                if (shard.isClosed()) {
+                    System.out.println("[SERVER] Socket fechado. Encerrando " + Thread.currentThread().getName() + ".");
                     break;
                 }
                 System.err.println("[SERVER] Erro recebimento de pacote : " + e.getMessage());
@@ -61,8 +209,39 @@ public class UdpServer {
         }
     }
 
-    // Lógica para escolher o país alvo do jogo
+    // Lógica para escolher o país alvo do jogo, conforme game.targetPolicy
     private void chooseTargetCountry() {
+        switch (config.getTargetPolicy()) {
+            case RANDOM:
+            case ROTATING:
+                targetCountry = requireTarget(countryService.findRandomCountry(), "catálogo vazio");
+                break;
+            case FIXED:
+                targetCountry = requireTarget(countryService.findCountry(config.getFixedTarget()),
+                        "país fixo não encontrado: " + config.getFixedTarget());
+                break;
+            default:
+                chooseTargetCountryInteractive();
+                return;
+        }
+        System.out.println("[SERVER] País definido: " + getPortugueseName(targetCountry));
+    }
+
+    // Define o país alvo junto com suas dicas pré-calculadas
+    private void setTarget(Pais pais) {
+        targetHints = countryService.getNeighborGraph().hintsFor(pais);
+        targetCountry = pais;
+    }
+
+    private Pais requireTarget(Pais pais, String reason) {
+        if (pais == null) {
+            throw new IllegalStateException("[SERVER] Não foi possível escolher o país alvo: " + reason);
+        }
+        return pais;
+    }
+
+    // Pergunta o país alvo no terminal
+    private void chooseTargetCountryInteractive() {
         Scanner sc = new Scanner(System.in, StandardCharsets.UTF_8);
         while (true) {
             System.out.print("Digite o país que deseja iniciar o jogo (ex: Brasil): ");
@@ -90,11 +269,14 @@ public class UdpServer {
         try {
             if (message.equalsIgnoreCase("JOIN")) {
                 clients.put(clientKey, addr);
+                journal.recordJoin(clientKey);
                 broadcast("[SERVER] Jogador entrou: " + clientKey);
                 sendTo(addr, "[SERVER] Bem-vindo! Comece a adivinhar.");
             } else if (message.equalsIgnoreCase("DESISTO")) {
                 sendTo(addr, "[SERVER] Você desistiu. A resposta correta era:\n" + formatCountryFull(targetCountry));
                 clients.remove(clientKey);
+                routes.remove(addr);
+                journal.recordLeave(clientKey);
                 broadcast("[SERVER] O jogador " + clientKey + " desistiu.\n");
             } else if (message.toUpperCase().startsWith("GUESS:")) {
                 String guess = message.substring(6).trim();
@@ -112,6 +294,7 @@ public class UdpServer {
     // Lógica para processar um palpite de país
     private void processGuess(String guess, String clientKey) {
         broadcast("[SERVER] Jogador " + clientKey + " chutou: " + guess);
+        journal.recordGuess(clientKey, guess);
 
         // Usa o serviço para buscar o país do palpite
         Pais guessed = countryService.findCountry(guess);
@@ -121,39 +304,83 @@ public class UdpServer {
         }
 
         // Verifica se o palpite está correto
-        boolean nameOk = normalize(guessed.getName().getCommon()).equalsIgnoreCase(normalize(targetCountry.getName().getCommon()));
+        TargetHints hints = targetHints;
+        Pais target = hints.getTarget();
+        boolean nameOk = normalize(guessed.getName().getCommon()).equalsIgnoreCase(normalize(target.getName().getCommon()));
         if (nameOk) {
             broadcast("[SERVER] 🎉 PARABÉNS! Jogador " + clientKey + " acertou: " + getPortugueseName(guessed));
             broadcast("[SERVER] Informações do país:\n" + formatCountryFull(guessed));
+            if (config.getTargetPolicy() == GameConfig.TargetPolicy.ROTATING) {
+                startNextRound(target);
+                return;
+            }
             broadcast("SHUTDOWN");
             System.out.println("[SERVER] Jogo encerrado. Desligando...");
-            socket.close();
+            journal.clear();
+            journal.close();
+            closeSockets();
             System.exit(0);
             return;
         }
 
-        // Gera o relatório comparativo 
+        broadcast(buildReport(guessed, hints, clientKey));
+    }
+
+    // Sorteia um novo país alvo e continua o jogo com os mesmos jogadores
+    private void startNextRound(Pais previous) {
+        synchronized (roundLock) {
+            // Outro acerto simultâneo já iniciou a próxima rodada
+            if (targetCountry != previous) {
+                return;
+            }
+            Pais next = countryService.findRandomCountry();
+            List<Pais> catalog = countryService.getCatalog();
+            for (int i = 0; next == previous && catalog.size() > 1 && i < 10; i++) {
+                next = countryService.findRandomCountry();
+            }
+            if (next == null) {
+                next = previous;
+            }
+            setTarget(next);
+            journal.recordTarget(next);
+            System.out.println("[SERVER] Nova rodada com: " + getPortugueseName(next));
+        }
+        broadcast("[SERVER] Nova rodada! Um novo país foi escolhido. Comece a adivinhar.");
+    }
+
+    // Gera o relatório comparativo
+    private String buildReport(Pais guessed, TargetHints hints, String clientKey) {
+        Pais target = hints.getTarget();
         StringBuilder report = new StringBuilder();
         report.append("Relatório comparativo (chute de ").append(clientKey).append("):\n");
         report.append("País: ").append(getPortugueseName(guessed)).append(" - incorreto\n");
         report.append("Continente: ").append(guessed.getRegion())
-                .append(guessed.getRegion().equalsIgnoreCase(targetCountry.getRegion()) ? " - correto" : " - incorreto").append("\n");
+                .append(guessed.getRegion().equalsIgnoreCase(target.getRegion()) ? " - correto" : " - incorreto").append("\n");
 
+        // Capital ausente ("—") em qualquer dos lados nunca conta como acerto
         String guessedCapital = getCapital(guessed);
-        String targetCapital = getCapital(targetCountry);
+        String targetCapital = getCapital(target);
+        boolean capitalOk = !guessedCapital.equals("—") && guessedCapital.equals(targetCapital);
         report.append("Capital: ").append(guessedCapital)
-                .append(Objects.equals(guessedCapital, targetCapital) ? " - correto" : " - incorreto").append("\n");
+                .append(capitalOk ? " - correto" : " - incorreto").append("\n");
 
-        report.append("Área (km²): ").append(formatNumberRelation(guessed.getArea(), targetCountry.getArea())).append("\n");
-        report.append("População: ").append(formatNumberRelation(guessed.getPopulation(), targetCountry.getPopulation())).append("\n");
+        report.append("Área (km²): ").append(formatNumberRelation(guessed.getArea(), target.getArea())).append("\n");
+        report.append("População: ").append(formatNumberRelation(guessed.getPopulation(), target.getPopulation())).append("\n");
 
         String guessedLangs = getLanguages(guessed);
-        String targetLangs = getLanguages(targetCountry);
+        String targetLangs = getLanguages(target);
         boolean langsOk = hasCommonLanguage(guessedLangs, targetLangs);
         report.append("Línguas: ").append(guessedLangs).append(langsOk ? " - pelo menos uma correta" : " - incorreto").append("\n");
+
+        // Dicas geográficas pré-calculadas para o alvo
+        report.append("Sub-região: ").append(guessed.getSubregion() == null ? "—" : guessed.getSubregion())
+                .append(hints.sameSubregion(guessed) ? " - correto" : " - incorreto").append("\n");
+        report.append("Continentes: ").append(guessed.getContinents() == null ? "—" : String.join(", ", guessed.getContinents()))
+                .append(hints.sharesContinent(guessed) ? " - pelo menos um correto" : " - incorreto").append("\n");
+        report.append("Fronteiras: ").append(formatBordersAway(hints.bordersAway(guessed))).append("\n");
         report.append("Digite o proximo palpite ou 'desisto' para sair.").append("\n");
 
-        broadcast(report.toString());
+        return report.toString();
     }
 
     // Auxiliares para formatação e envio de mensagens
@@ -173,6 +400,17 @@ public class UdpServer {
         return String.join(", ", pais.getLanguages().values());
     }
 
+    // Formata a distância em fronteiras entre o palpite e o país alvo
+    private String formatBordersAway(int borders) {
+        if (borders == TargetHints.UNKNOWN) {
+            return "—";
+        }
+        if (borders == TargetHints.UNREACHABLE) {
+            return "sem ligação terrestre";
+        }
+        return borders == 1 ? "faz fronteira" : "a " + borders + " fronteiras de distância";
+    }
+
     // Formata a relação numérica entre o palpite e o país alvo
     private String formatNumberRelation(double guess, double target) {
         NumberFormat nf = NumberFormat.getInstance(new Locale("pt", "BR"));
@@ -209,12 +447,19 @@ public class UdpServer {
         try {
             byte[] data = msg.getBytes(StandardCharsets.UTF_8);
             DatagramPacket dp = new DatagramPacket(data, data.length, (InetSocketAddress) addr);
-            socket.send(dp);
+            routes.getOrDefault(addr, sockets.get(0)).send(dp);
         } catch (IOException e) {
             System.err.println("[SERVER] Erro enviando para " + addr + ": " + e.getMessage());
         }
     }
 
+    // Fecha todos os shards
+    private void closeSockets() {
+        for (DatagramSocket s : sockets) {
+            s.close();
+        }
+    }
+
     // Envia uma mensagem para todos os clientes conectados
     private void broadcast(String msg) {
         System.out.println("[BROADCAST] " + msg);
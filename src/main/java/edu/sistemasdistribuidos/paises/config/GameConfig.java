@@ -0,0 +1,193 @@
+package edu.sistemasdistribuidos.paises.config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+
+/*
+ * Configuração do servidor e do cliente.
+ * Ordem de precedência (da menor para a maior):
+ * 1. Valores padrão definidos abaixo.
+ * 2. Arquivo .properties (primeiro argumento, variável PAISES_CONFIG ou ./paises.properties).
+ * 3. Variáveis de ambiente: a chave em maiúsculas com '.' trocado por '_' e prefixo PAISES_
+ *    (ex: server.port -> PAISES_SERVER_PORT).
+ * 4. Propriedades de sistema com a mesma chave (ex: -Dserver.port=6000).
+ */
+public class GameConfig {
+
+    private static final String DEFAULT_FILE = "paises.properties";
+    private static final String ENV_FILE = "PAISES_CONFIG";
+    private static final String ENV_PREFIX = "PAISES_";
+
+    // Política de escolha do país alvo
+    public enum TargetPolicy {
+        INTERACTIVE, // pergunta no terminal (comportamento original)
+        RANDOM,      // sorteia do catálogo pré-carregado
+        FIXED,       // usa game.fixedTarget
+        ROTATING     // sorteia do catálogo e troca de país a cada rodada vencida
+    }
+
+    // Como as mensagens recebidas são processadas
+    public enum Dispatch {
+        THREAD, // uma thread por mensagem (comportamento original)
+        INLINE  // processadas na própria thread do shard, preservando a ordem por jogador
+    }
+
+    // Origem dos dados dos países
+    public enum Backend {
+        API, // restcountries.com (ou country.apiUrl)
+        FILE // catálogo JSON local em country.catalogFile, sem acesso à rede
+    }
+
+    private final Properties props = new Properties();
+
+    private GameConfig() {
+        props.setProperty("server.port", "5000");
+        props.setProperty("server.bufferSize", "4096");
+        props.setProperty("server.shards", "1");
+        props.setProperty("server.dispatch", "thread");
+        props.setProperty("server.warmup", "true");
+        props.setProperty("server.warmupIterations", "20000");
+        props.setProperty("client.host", "localhost");
+        props.setProperty("client.bufferSize", "4096");
+        props.setProperty("country.backend", "api");
+        props.setProperty("country.apiUrl", "https://restcountries.com/v3.1/");
+        props.setProperty("country.catalogFile", "");
+        props.setProperty("country.cacheSize", "512");
+        props.setProperty("game.targetPolicy", "interactive");
+        props.setProperty("game.fixedTarget", "");
+        props.setProperty("game.journalPath", "paises-journal.log");
+        props.setProperty("game.journalCompactThreshold", "1000");
+        props.setProperty("game.journalCompactIntervalSeconds", "30");
+        props.setProperty("game.journalFlushIntervalMillis", "1000");
+    }
+
+    // Carrega a configuração a partir dos argumentos, do ambiente e das propriedades de sistema
+    public static GameConfig load(String[] args) throws IOException {
+        GameConfig config = new GameConfig();
+
+        Path file = null;
+        if (args != null && args.length > 0 && !args[0].isBlank()) {
+            file = Paths.get(args[0]);
+        } else if (System.getenv(ENV_FILE) != null && !System.getenv(ENV_FILE).isBlank()) {
+            file = Paths.get(System.getenv(ENV_FILE));
+        } else if (Files.exists(Paths.get(DEFAULT_FILE))) {
+            file = Paths.get(DEFAULT_FILE);
+        }
+        if (file != null) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                config.props.load(reader);
+            }
+        }
+
+        for (String key : config.props.stringPropertyNames()) {
+            String env = System.getenv(ENV_PREFIX + key.replace('.', '_').toUpperCase(Locale.ROOT));
+            if (env != null) {
+                config.props.setProperty(key, env);
+            }
+            String sys = System.getProperty(key);
+            if (sys != null) {
+                config.props.setProperty(key, sys);
+            }
+        }
+        return config;
+    }
+
+    public int getServerPort() {
+        return getInt("server.port");
+    }
+
+    public int getServerBufferSize() {
+        return getInt("server.bufferSize");
+    }
+
+    public int getReceiveShards() {
+        return getInt("server.shards");
+    }
+
+    public Dispatch getDispatch() {
+        return getEnum("server.dispatch", Dispatch.class);
+    }
+
+    public boolean isWarmup() {
+        return Boolean.parseBoolean(get("server.warmup"));
+    }
+
+    public int getWarmupIterations() {
+        return getInt("server.warmupIterations");
+    }
+
+    public String getClientHost() {
+        return get("client.host");
+    }
+
+    public int getClientBufferSize() {
+        return getInt("client.bufferSize");
+    }
+
+    public Backend getBackend() {
+        return getEnum("country.backend", Backend.class);
+    }
+
+    public String getApiUrl() {
+        String url = get("country.apiUrl");
+        return url.endsWith("/") ? url : url + "/";
+    }
+
+    public String getCatalogFile() {
+        return get("country.catalogFile");
+    }
+
+    public int getCacheSize() {
+        return getInt("country.cacheSize");
+    }
+
+    public TargetPolicy getTargetPolicy() {
+        return getEnum("game.targetPolicy", TargetPolicy.class);
+    }
+
+    public String getFixedTarget() {
+        return get("game.fixedTarget");
+    }
+
+    public String getJournalPath() {
+        return get("game.journalPath");
+    }
+
+    public int getJournalCompactThreshold() {
+        return getInt("game.journalCompactThreshold");
+    }
+
+    public int getJournalCompactIntervalSeconds() {
+        return getInt("game.journalCompactIntervalSeconds");
+    }
+
+    public int getJournalFlushIntervalMillis() {
+        return getInt("game.journalFlushIntervalMillis");
+    }
+
+    private String get(String key) {
+        return props.getProperty(key, "").trim();
+    }
+
+    private int getInt(String key) {
+        try {
+            return Integer.parseInt(get(key));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido para " + key + ": " + get(key), e);
+        }
+    }
+
+    private <E extends Enum<E>> E getEnum(String key, Class<E> type) {
+        try {
+            return Enum.valueOf(type, get(key).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor inválido para " + key + ": " + get(key), e);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Map;
 
 public class Pais {
     private Name name;
+    private String cca3;
     private String region;
     private String subregion;
     private String[] capital; // Adicionado
@@ -25,6 +26,14 @@ public class Pais {
         this.name = name;
     }
 
+    public String getCca3() {
+        return cca3;
+    }
+
+    public void setCca3(String cca3) {
+        this.cca3 = cca3;
+    }
+
     public String getRegion() {
         return region;
     }
@@ -101,6 +110,7 @@ public class Pais {
     public String toString() {
         return "Pais{" +
                 "name=" + name +
+                ", cca3='" + cca3 + '\'' +
                 ", region='" + region + '\'' +
                 ", subregion='" + subregion + '\'' +
                 ", capital=" + Arrays.toString(capital) +
@@ -1,73 +1,208 @@
 package edu.sistemasdistribuidos.paises.services;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.Normalizer;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
+import edu.sistemasdistribuidos.paises.config.GameConfig;
 import edu.sistemasdistribuidos.paises.models.Pais;
+import edu.sistemasdistribuidos.paises.models.Translation;
 
 public class CountryService {
 
     private final HttpClient http;
     private final Gson gson = new Gson();
-    private static final String BASE_URL = "https://restcountries.com/v3.1/";
-    private static final String FIELDS = "?fields=area,borders,continents,demonym,name,languages,population,region,subregion,translations";
-
-    // Construtor que inicializa o HttpClient com configuração SSL
-    public CountryService() {
-        HttpClient client;
-        client = HttpClient.newBuilder().build();
-        this.http = client;
+    private static final String FIELDS = "?fields=area,borders,cca3,continents,name,languages,population,region,subregion,translations";
+    // /all aceita no máximo 10 campos; a capital vem numa segunda busca, juntada pelo cca3
+    private static final String CAPITAL_FIELDS = "?fields=cca3,capital";
+    private static final Type PAIS_LIST_TYPE = new TypeToken<List<Pais>>() {
+    }.getType();
+
+    private final String baseUrl;
+    private final GameConfig.Backend backend;
+    private final String catalogFile;
+
+    // Catálogo pré-carregado e índice por nome normalizado (comum, oficial e traduções)
+    private volatile List<Pais> catalog = Collections.emptyList();
+    private volatile Map<String, Pais> catalogIndex = Collections.emptyMap();
+    // Grafo de fronteiras do catálogo, montado uma vez na carga
+    private volatile NeighborGraph neighborGraph = NeighborGraph.EMPTY;
+
+    // Cache LRU das buscas que precisaram ir à API
+    private final Map<String, Pais> cache;
+
+    public CountryService(GameConfig config) {
+        this(config.getApiUrl(), config.getBackend(), config.getCatalogFile(), config.getCacheSize());
+    }
+
+    public CountryService(String baseUrl, GameConfig.Backend backend, String catalogFile, int cacheSize) {
+        this.http = HttpClient.newBuilder().build();
+        this.baseUrl = baseUrl;
+        this.backend = backend;
+        this.catalogFile = catalogFile;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, Pais>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Pais> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    // Carrega todos os países uma única vez (da API ou do arquivo local) e indexa por nome
+    public synchronized List<Pais> loadCatalog() {
+        if (!catalog.isEmpty()) {
+            return catalog;
+        }
+        List<Pais> paises = backend == GameConfig.Backend.FILE ? readCatalogFile() : fetchAll();
+        if (paises == null || paises.isEmpty()) {
+            return catalog;
+        }
+        Map<String, Pais> index = new HashMap<>();
+        for (Pais p : paises) {
+            if (p.getName() != null) {
+                index.putIfAbsent(normalize(p.getName().getCommon()), p);
+                index.putIfAbsent(normalize(p.getName().getOfficial()), p);
+            }
+            if (p.getTranslations() != null) {
+                for (Translation t : p.getTranslations().values()) {
+                    if (t != null) {
+                        index.putIfAbsent(normalize(t.getCommon()), p);
+                    }
+                }
+            }
+        }
+        index.remove("");
+        catalogIndex = index;
+        neighborGraph = new NeighborGraph(paises);
+        catalog = Collections.unmodifiableList(new ArrayList<>(paises));
+        System.out.println("[SERVICE] Catálogo carregado: " + catalog.size() + " países.");
+        return catalog;
+    }
+
+    public List<Pais> getCatalog() {
+        return catalog;
+    }
+
+    public NeighborGraph getNeighborGraph() {
+        return neighborGraph;
     }
 
     // Método principal para encontrar um país por nome ou tradução
     public Pais findCountry(String name) {
-        Pais country = fetchByTranslation(name);
+        // Sem acesso à rede, o catálogo local é a única fonte
+        if (backend == GameConfig.Backend.FILE && catalog.isEmpty()) {
+            loadCatalog();
+        }
+        String key = normalize(name);
+        Pais country = catalogIndex.get(key);
         if (country != null) {
             return country;
         }
-
-        country = fetchByName(name, true);
-        if (country != null) {
+        country = cache.get(key);
+        if (country != null || backend == GameConfig.Backend.FILE) {
             return country;
         }
 
-        return fetchByName(name, false);
+        country = fetchByTranslation(name);
+        if (country == null) {
+            country = fetchByName(name, true);
+        }
+        if (country == null) {
+            country = fetchByName(name, false);
+        }
+        if (country != null) {
+            cache.put(key, country);
+        }
+        return country;
     }
 
     public Pais findRandomCountry() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder().uri(new URI("https://restcountries.com/v3.1/all?fields=area,borders,continents,demonym,name,languages,population,region,subregion,translations")).build();
+        List<Pais> paises = loadCatalog();
+        if (paises.isEmpty()) {
+            return null;
+        }
+        return paises.get(ThreadLocalRandom.current().nextInt(paises.size()));
+    }
+
+    // Busca todos os países na API, completando cada um com sua capital
+    private List<Pais> fetchAll() {
+        List<Pais> paises = fetchAllFields(FIELDS);
+        if (paises == null) {
+            return null;
+        }
+        List<Pais> capitals = fetchAllFields(CAPITAL_FIELDS);
+        if (capitals == null) {
+            System.err.println("[SERVICE_ERROR] Capitais indisponíveis; o catálogo seguirá sem elas.");
+            return paises;
+        }
+        Map<String, String[]> byCca3 = new HashMap<>();
+        for (Pais c : capitals) {
+            if (c.getCca3() != null) {
+                byCca3.put(c.getCca3(), c.getCapital());
+            }
+        }
+        for (Pais p : paises) {
+            if (p.getCca3() != null) {
+                p.setCapital(byCca3.get(p.getCca3()));
+            }
+        }
+        return paises;
+    }
 
+    // Busca todos os países na API com a lista de campos informada
+    private List<Pais> fetchAllFields(String fields) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl + "all" + fields))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET().build();
             HttpResponse<String> response = this.http.send(request, HttpResponse.BodyHandlers.ofString());
             if (response.statusCode() == 200) {
-                Gson gson = new Gson();
-                Type paisListType = new TypeToken<List<Pais>>() {
-                }.getType();
-                List<Pais> paises = gson.fromJson(response.body(), paisListType);
-                Random random = new Random();
-                int randomIndex = random.nextInt(paises.size());
-                return paises.get(randomIndex);
+                return gson.fromJson(response.body(), PAIS_LIST_TYPE);
             }
-        } catch (URISyntaxException ex) {
-        } catch (IOException ex) {
-        } catch (InterruptedException ex) {
+            System.err.println("[SERVICE_ERROR] Falha ao carregar catálogo: HTTP " + response.statusCode());
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("[SERVICE_ERROR] Falha ao carregar catálogo: " + e.getClass().getSimpleName() + " - " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
         return null;
     }
 
+    // Lê o catálogo de um arquivo JSON local (mesmo formato da resposta de /all)
+    private List<Pais> readCatalogFile() {
+        if (catalogFile == null || catalogFile.isBlank()) {
+            System.err.println("[SERVICE_ERROR] country.catalogFile não configurado.");
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(Paths.get(catalogFile), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, PAIS_LIST_TYPE);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[SERVICE_ERROR] Falha ao ler catálogo '" + catalogFile + "': " + e.getClass().getSimpleName() + " - " + e.getMessage());
+            return null;
+        }
+    }
+
     // Busca país pelo nome, com opção de busca exata ou parcial
     private Pais fetchByName(String name, boolean fullText) {
         String endpoint = "name/" + encode(name) + FIELDS + (fullText ? "&fullText=true" : "");
@@ -84,7 +219,7 @@ public class CountryService {
     private Pais fetchFromApi(String endpoint) {
         try {
             HttpRequest req = HttpRequest.newBuilder()
-                    .uri(URI.create(BASE_URL + endpoint))
+                    .uri(URI.create(baseUrl + endpoint))
                     .timeout(Duration.ofSeconds(10))
                     .GET().build();
             // Envia a requisição e obtém a resposta
@@ -96,9 +231,7 @@ public class CountryService {
             }
 
             // Desserializa a resposta JSON em uma lista de países
-            Type paisListType = new TypeToken<List<Pais>>() {
-            }.getType();
-            List<Pais> paises = gson.fromJson(resp.body(), paisListType);
+            List<Pais> paises = gson.fromJson(resp.body(), PAIS_LIST_TYPE);
 
             return paises.isEmpty() ? null : paises.get(0);
         } catch (Exception e) {
@@ -107,6 +240,15 @@ public class CountryService {
         }
     }
 
+    // Normaliza nomes para busca no índice (remove acentos, converte para minúsculas e trim)
+    private String normalize(String s) {
+        if (s == null) {
+            return "";
+        }
+        String n = Normalizer.normalize(s, Normalizer.Form.NFD);
+        return n.replaceAll("\\p{M}", "").toLowerCase().trim();
+    }
+
     // Método auxiliar para codificar parâmetros de URL
     private String encode(String value) {
         return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
@@ -0,0 +1,253 @@
+package edu.sistemasdistribuidos.paises.services;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import edu.sistemasdistribuidos.paises.models.Pais;
+
+/*
+ * Journal append-only do estado do jogo (alvo, jogadores e palpites), uma entrada JSON por linha.
+ * As entradas ficam no buffer do writer e são gravadas em lote por flush() (chamado periodicamente
+ * pelo servidor); uma queda do processo perde no máximo as entradas desde o último flush.
+ */
+public class GameJournal {
+
+    private static final String TARGET = "TARGET";
+    private static final String JOIN = "JOIN";
+    private static final String LEAVE = "LEAVE";
+    private static final String GUESS = "GUESS";
+    // Quantidade máxima de palpites mantidos no histórico (e no snapshot)
+    private static final int MAX_GUESS_HISTORY = 100;
+
+    private final Path path;
+    private final int compactThreshold;
+    private final Gson gson = new Gson();
+
+    private BufferedWriter writer;
+    private int entries;
+    private int lastSnapshotSize;
+
+    // Estado atual, reconstruído a partir do journal
+    private Pais target;
+    private final Set<String> clients = new LinkedHashSet<>();
+    private final Deque<Entry> guesses = new ArrayDeque<>();
+
+    public GameJournal(Path path, int compactThreshold) {
+        this.path = path;
+        this.compactThreshold = compactThreshold;
+    }
+
+    // Lê o journal existente (se houver) e o deixa aberto para novas entradas
+    public synchronized void open() throws IOException {
+        boolean truncated = false;
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    Entry entry;
+                    try {
+                        entry = gson.fromJson(line, Entry.class);
+                    } catch (JsonParseException e) {
+                        // Última linha incompleta (queda durante a escrita): descarta o restante
+                        System.err.println("[JOURNAL] Entrada inválida ignorada: " + e.getMessage());
+                        truncated = true;
+                        break;
+                    }
+                    apply(entry);
+                    entries++;
+                }
+            }
+        }
+        lastSnapshotSize = entries;
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (truncated) {
+            compact();
+        }
+    }
+
+    public void recordTarget(Pais pais) {
+        Entry entry = new Entry(TARGET, null, null);
+        entry.target = pais;
+        append(entry);
+    }
+
+    public void recordJoin(String client) {
+        append(new Entry(JOIN, client, null));
+    }
+
+    public void recordLeave(String client) {
+        append(new Entry(LEAVE, client, null));
+    }
+
+    public void recordGuess(String client, String guess) {
+        append(new Entry(GUESS, client, guess));
+    }
+
+    // Grava no arquivo as entradas acumuladas no buffer
+    public synchronized void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("[JOURNAL] Falha ao gravar entradas: " + e.getMessage());
+        }
+    }
+
+    // Compacta o journal se ele cresceu além do limite desde o último snapshot
+    public synchronized void compactIfNeeded() {
+        if (entries - lastSnapshotSize > compactThreshold) {
+            compact();
+        }
+    }
+
+    // Reescreve o journal com apenas o estado atual e o troca atomicamente pelo antigo
+    public synchronized void compact() {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            writer.close();
+            int written = 0;
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                if (target != null) {
+                    Entry entry = new Entry(TARGET, null, null);
+                    entry.target = target;
+                    writeLine(out, entry);
+                    written++;
+                }
+                for (String client : clients) {
+                    writeLine(out, new Entry(JOIN, client, null));
+                    written++;
+                }
+                for (Entry guess : guesses) {
+                    writeLine(out, guess);
+                    written++;
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            entries = written;
+            lastSnapshotSize = written;
+        } catch (IOException e) {
+            System.err.println("[JOURNAL] Falha ao compactar: " + e.getMessage());
+        } finally {
+            reopen();
+        }
+    }
+
+    // Descarta todo o estado (fim de jogo)
+    public synchronized void clear() {
+        target = null;
+        clients.clear();
+        guesses.clear();
+        compact();
+    }
+
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.err.println("[JOURNAL] Falha ao fechar: " + e.getMessage());
+        }
+    }
+
+    public synchronized Pais getTarget() {
+        return target;
+    }
+
+    public synchronized Set<String> getClients() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(clients));
+    }
+
+    public synchronized List<String> getGuessHistory() {
+        List<String> out = new ArrayList<>();
+        for (Entry guess : guesses) {
+            out.add(guess.client + ": " + guess.guess);
+        }
+        return out;
+    }
+
+    // Aplica uma entrada ao estado em memória
+    private void apply(Entry entry) {
+        if (entry == null || entry.type == null) {
+            return;
+        }
+        switch (entry.type) {
+            case TARGET:
+                target = entry.target;
+                guesses.clear();
+                break;
+            case JOIN:
+                clients.add(entry.client);
+                break;
+            case LEAVE:
+                clients.remove(entry.client);
+                break;
+            case GUESS:
+                guesses.addLast(entry);
+                if (guesses.size() > MAX_GUESS_HISTORY) {
+                    guesses.removeFirst();
+                }
+                break;
+            default:
+                System.err.println("[JOURNAL] Tipo de entrada desconhecido: " + entry.type);
+        }
+    }
+
+    // Aplica a entrada em memória e a coloca no buffer do journal (serializada fora do lock)
+    private void append(Entry entry) {
+        String line = gson.toJson(entry);
+        synchronized (this) {
+            apply(entry);
+            try {
+                writer.write(line);
+                writer.newLine();
+                entries++;
+            } catch (IOException e) {
+                System.err.println("[JOURNAL] Falha ao gravar entrada " + entry.type + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void writeLine(BufferedWriter out, Entry entry) throws IOException {
+        out.write(gson.toJson(entry));
+        out.newLine();
+    }
+
+    private void reopen() {
+        try {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("[JOURNAL] Falha ao reabrir: " + e.getMessage());
+        }
+    }
+
+    // Entrada do journal
+    private static class Entry {
+        private String type;
+        private String client;
+        private String guess;
+        private Pais target;
+
+        Entry(String type, String client, String guess) {
+            this.type = type;
+            this.client = client;
+            this.guess = guess;
+        }
+    }
+}
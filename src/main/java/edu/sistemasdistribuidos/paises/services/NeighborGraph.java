@@ -0,0 +1,85 @@
+package edu.sistemasdistribuidos.paises.services;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.sistemasdistribuidos.paises.models.Pais;
+
+// Grafo de fronteiras terrestres entre países, montado a partir de Pais.borders (códigos cca3)
+public class NeighborGraph {
+
+    public static final NeighborGraph EMPTY = new NeighborGraph(List.of());
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final int[][] adjacency;
+
+    public NeighborGraph(List<Pais> paises) {
+        for (Pais p : paises) {
+            if (p.getCca3() != null) {
+                ids.putIfAbsent(p.getCca3(), ids.size());
+            }
+        }
+        adjacency = new int[ids.size()][];
+        for (Pais p : paises) {
+            Integer id = p.getCca3() == null ? null : ids.get(p.getCca3());
+            if (id == null || adjacency[id] != null) {
+                continue;
+            }
+            String[] borders = p.getBorders() == null ? new String[0] : p.getBorders();
+            int[] neighbors = new int[borders.length];
+            int n = 0;
+            for (String code : borders) {
+                Integer other = ids.get(code);
+                if (other != null) {
+                    neighbors[n++] = other;
+                }
+            }
+            adjacency[id] = Arrays.copyOf(neighbors, n);
+        }
+        for (int i = 0; i < adjacency.length; i++) {
+            if (adjacency[i] == null) {
+                adjacency[i] = new int[0];
+            }
+        }
+    }
+
+    // Índice do país no grafo, ou -1 se ele não estiver no catálogo
+    public int indexOf(Pais pais) {
+        if (pais == null || pais.getCca3() == null) {
+            return -1;
+        }
+        Integer id = ids.get(pais.getCca3());
+        return id == null ? -1 : id;
+    }
+
+    // Pré-calcula as dicas de um país alvo (distâncias em fronteiras via BFS)
+    public TargetHints hintsFor(Pais target) {
+        return new TargetHints(this, target, distancesFrom(indexOf(target)));
+    }
+
+    // Distância em fronteiras de cada país até a origem; TargetHints.UNREACHABLE se não houver caminho por terra
+    private int[] distancesFrom(int source) {
+        int[] dist = new int[adjacency.length];
+        Arrays.fill(dist, TargetHints.UNREACHABLE);
+        if (source < 0) {
+            return dist;
+        }
+        int[] queue = new int[adjacency.length];
+        int head = 0;
+        int tail = 0;
+        dist[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            for (int next : adjacency[current]) {
+                if (dist[next] == TargetHints.UNREACHABLE) {
+                    dist[next] = dist[current] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return dist;
+    }
+}
@@ -0,0 +1,59 @@
+package edu.sistemasdistribuidos.paises.services;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import edu.sistemasdistribuidos.paises.models.Pais;
+
+// Dicas pré-calculadas para um país alvo; cada consulta por palpite é O(1)
+public class TargetHints {
+
+    public static final int UNREACHABLE = -1; // sem caminho por fronteiras terrestres
+    public static final int UNKNOWN = -2;     // país fora do grafo (sem cca3 ou fora do catálogo)
+
+    private final NeighborGraph graph;
+    private final Pais target;
+    private final int[] distances;
+    private final Set<String> continents = new HashSet<>();
+
+    TargetHints(NeighborGraph graph, Pais target, int[] distances) {
+        this.graph = graph;
+        this.target = target;
+        this.distances = distances;
+        if (target.getContinents() != null) {
+            for (String c : target.getContinents()) {
+                continents.add(c.toLowerCase());
+            }
+        }
+    }
+
+    public Pais getTarget() {
+        return target;
+    }
+
+    // Quantas fronteiras separam o palpite do alvo
+    public int bordersAway(Pais guessed) {
+        if (graph.indexOf(target) < 0) {
+            return UNKNOWN;
+        }
+        int id = graph.indexOf(guessed);
+        return id < 0 ? UNKNOWN : distances[id];
+    }
+
+    public boolean sameSubregion(Pais guessed) {
+        return target.getSubregion() != null && target.getSubregion().equalsIgnoreCase(guessed.getSubregion());
+    }
+
+    // Verifica se há pelo menos um continente em comum
+    public boolean sharesContinent(Pais guessed) {
+        if (guessed.getContinents() == null) {
+            return false;
+        }
+        for (String c : guessed.getContinents()) {
+            if (continents.contains(c.toLowerCase())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}